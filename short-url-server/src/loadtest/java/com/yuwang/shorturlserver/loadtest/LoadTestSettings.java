@@ -0,0 +1,37 @@
+package com.yuwang.shorturlserver.loadtest;
+
+import lombok.Data;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Workload shape and latency budgets, bound from the {@code loadtest} prefix of application-loadtest.yaml.
+ */
+@Data
+public class LoadTestSettings {
+    private Duration warmup = Duration.ofSeconds(15);
+    private Duration duration = Duration.ofSeconds(60);
+    private int threads = 32;
+    /**
+     * 预先创建、供跳转请求按 Zipf 分布访问的短码数量
+     */
+    private int codes = 10_000;
+    private double zipfExponent = 1.1;
+    private int redirectWeight = 90;
+    private int createWeight = 8;
+    private int listWeight = 2;
+    /**
+     * 按操作名（redirect/create/list）配置的延迟预算
+     */
+    private Map<String, Budget> budgets = new LinkedHashMap<>();
+
+    @Data
+    public static class Budget {
+        private Duration p50;
+        private Duration p99;
+        private Duration p999;
+        private double maxErrorRate = 0.001;
+    }
+}
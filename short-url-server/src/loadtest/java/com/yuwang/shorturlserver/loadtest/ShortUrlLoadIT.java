@@ -0,0 +1,281 @@
+package com.yuwang.shorturlserver.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.function.Executable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertAll;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load test: boots the full application against an embedded Redis and an in-memory H2 (MySQL mode),
+ * replays a Zipf-distributed redirect workload mixed with creates and list queries, and fails when
+ * p50/p99/p999 or the error rate of any operation exceeds its budget in application-loadtest.yaml.
+ * <p>
+ * The load generator is closed-loop, so latencies under saturation are understated (coordinated omission);
+ * compare runs on the same hardware and thread count.
+ */
+@Slf4j
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+class ShortUrlLoadIT {
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static RedisServer redisServer;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+    private final AtomicInteger createSequence = new AtomicInteger();
+
+    @DynamicPropertySource
+    static void standIns(DynamicPropertyRegistry registry) throws IOException {
+        int redisPort = freePort();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        registry.add("spring.data.redis.url", () -> "redis://localhost:" + redisPort);
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> redisPort);
+    }
+
+    @AfterAll
+    static void stopStandIns() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    void latencyStaysWithinBudget() throws Exception {
+        LoadTestSettings settings = Binder.get(environment).bind("loadtest", LoadTestSettings.class)
+                .orElseGet(LoadTestSettings::new);
+        for (Operation operation : Operation.values()) {
+            histograms.put(operation, new ConcurrentHistogram(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(settings.getThreads());
+        try {
+            List<String> codes = seed(executor, settings.getCodes());
+            ZipfDistribution zipf = new ZipfDistribution(codes.size(), settings.getZipfExponent());
+
+            run(executor, settings, codes, zipf, settings.getWarmup());
+            histograms.values().forEach(Histogram::reset);
+            errors.values().forEach(LongAdder::reset);
+            run(executor, settings, codes, zipf, settings.getDuration());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        report(settings.getDuration());
+        assertAll(budgetChecks(settings));
+    }
+
+    private List<String> seed(ExecutorService executor, int count) throws Exception {
+        List<Future<String>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            futures.add(executor.submit(() -> create()));
+        }
+        List<String> codes = new ArrayList<>(count);
+        for (Future<String> future : futures) {
+            codes.add(future.get());
+        }
+        log.info("Seeded {} short codes", codes.size());
+        return codes;
+    }
+
+    private void run(ExecutorService executor, LoadTestSettings settings, List<String> codes,
+                     ZipfDistribution zipf, Duration duration) throws Exception {
+        long deadline = System.nanoTime() + duration.toNanos();
+        int totalWeight = settings.getRedirectWeight() + settings.getCreateWeight() + settings.getListWeight();
+        List<Future<?>> workers = new ArrayList<>();
+        for (int i = 0; i < settings.getThreads(); i++) {
+            workers.add(executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    int pick = ThreadLocalRandom.current().nextInt(totalWeight);
+                    if (pick < settings.getRedirectWeight()) {
+                        measure(Operation.REDIRECT, () -> redirect(codes.get(zipf.sample())));
+                    } else if (pick < settings.getRedirectWeight() + settings.getCreateWeight()) {
+                        measure(Operation.CREATE, this::create);
+                    } else {
+                        measure(Operation.LIST, this::list);
+                    }
+                }
+            }));
+        }
+        for (Future<?> worker : workers) {
+            worker.get();
+        }
+    }
+
+    private void measure(Operation operation, ThrowingCall call) {
+        long start = System.nanoTime();
+        try {
+            call.call();
+        } catch (Exception e) {
+            errors.get(operation).increment();
+            return;
+        }
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start);
+        histograms.get(operation).recordValue(Math.min(micros, HIGHEST_TRACKABLE_MICROS));
+    }
+
+    private String create() throws Exception {
+        String body = objectMapper.writeValueAsString(Map.of(
+                "longUrl", "https://example.com/load/" + createSequence.incrementAndGet() + "/" + UUID.randomUUID()));
+        JsonNode result = postJson("/api/shorturls/shorten", body);
+        String shortUrl = result.path("data").asText();
+        return shortUrl.substring(shortUrl.lastIndexOf('/') + 1);
+    }
+
+    private Object redirect(String shortCode) throws Exception {
+        HttpResponse<Void> response = httpClient.send(
+                HttpRequest.newBuilder(uri("/" + shortCode)).GET().build(), HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 302) {
+            throw new IllegalStateException("redirect returned " + response.statusCode());
+        }
+        return null;
+    }
+
+    private Object list() throws Exception {
+        return postJson("/api/shorturls/list", "{\"pageNum\":1,\"pageSize\":10}");
+    }
+
+    private JsonNode postJson(String path, String body) throws Exception {
+        HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build(), HttpResponse.BodyHandlers.ofString());
+        JsonNode result = response.statusCode() == 200 ? objectMapper.readTree(response.body()) : null;
+        if (result == null || result.path("code").asInt(-1) != 0) {
+            throw new IllegalStateException(path + " returned " + response.statusCode() + ": " + response.body());
+        }
+        return result;
+    }
+
+    private void report(Duration duration) throws IOException {
+        Path outputDir = Path.of("target", "loadtest");
+        Files.createDirectories(outputDir);
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            log.info("{}: count={} errors={} throughput={}/s p50={}ms p99={}ms p999={}ms max={}ms",
+                    operation, histogram.getTotalCount(), errors.get(operation).sum(),
+                    String.format("%.1f", histogram.getTotalCount() / (duration.toMillis() / 1000d)),
+                    millis(histogram.getValueAtPercentile(50)), millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)), millis(histogram.getMaxValue()));
+            // full distributions for plotting / diffing between runs
+            try (PrintStream out = new PrintStream(Files.newOutputStream(outputDir.resolve(operation.key + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private List<Executable> budgetChecks(LoadTestSettings settings) {
+        List<Executable> checks = new ArrayList<>();
+        for (Operation operation : Operation.values()) {
+            LoadTestSettings.Budget budget = settings.getBudgets().get(operation.key);
+            if (budget == null) {
+                continue;
+            }
+            Histogram histogram = histograms.get(operation);
+            checks.add(() -> assertPercentile(operation, histogram, 50, budget.getP50()));
+            checks.add(() -> assertPercentile(operation, histogram, 99, budget.getP99()));
+            checks.add(() -> assertPercentile(operation, histogram, 99.9, budget.getP999()));
+            checks.add(() -> {
+                long failed = errors.get(operation).sum();
+                double errorRate = failed / (double) Math.max(1, failed + histogram.getTotalCount());
+                assertTrue(errorRate <= budget.getMaxErrorRate(),
+                        () -> operation + " error rate " + errorRate + " exceeds budget " + budget.getMaxErrorRate());
+            });
+        }
+        return checks;
+    }
+
+    private static void assertPercentile(Operation operation, Histogram histogram, double percentile, Duration budget) {
+        if (budget == null) {
+            return;
+        }
+        long actualMicros = histogram.getValueAtPercentile(percentile);
+        assertTrue(actualMicros <= budget.toNanos() / 1000,
+                () -> operation + " p" + percentile + " " + millis(actualMicros) + "ms exceeds budget " + budget.toMillis() + "ms");
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000d);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private enum Operation {
+        REDIRECT("redirect"), CREATE("create"), LIST("list");
+
+        private final String key;
+
+        Operation(String key) {
+            this.key = key;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ThrowingCall {
+        Object call() throws Exception;
+    }
+}
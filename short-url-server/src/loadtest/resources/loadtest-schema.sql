@@ -0,0 +1,13 @@
+-- url.sql declares created_at NOT NULL without a default and no entity maps it;
+-- MySQL in non-strict mode tolerates that, H2 does not.
+-- create_time/update_time on both tables are filled by MyMetaObjectHandler, so they need no default here
+ALTER TABLE `urls` ALTER COLUMN `created_at` SET DEFAULT CURRENT_TIMESTAMP;
+
+-- H2 2.2 in MySQL mode moves the identity sequence after every insert, which races under concurrent inserts
+-- and hands out duplicate ids; a plain sequence default generates the same keys without that step
+CREATE SEQUENCE `urls_id_seq`;
+ALTER TABLE `urls` ALTER COLUMN `id` DROP IDENTITY;
+ALTER TABLE `urls` ALTER COLUMN `id` SET DEFAULT NEXT VALUE FOR `urls_id_seq`;
+CREATE SEQUENCE `url_analytics_id_seq`;
+ALTER TABLE `url_analytics` ALTER COLUMN `id` DROP IDENTITY;
+ALTER TABLE `url_analytics` ALTER COLUMN `id` SET DEFAULT NEXT VALUE FOR `url_analytics_id_seq`;
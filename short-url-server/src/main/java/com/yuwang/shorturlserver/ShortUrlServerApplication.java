@@ -3,9 +3,11 @@ package com.yuwang.shorturlserver;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
 @MapperScan("com.yuwang.shorturlserver.domain.repository")
+@EnableScheduling
 public class ShortUrlServerApplication {
 
     public static void main(String[] args) {
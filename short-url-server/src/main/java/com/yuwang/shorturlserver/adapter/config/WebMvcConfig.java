@@ -1,12 +1,26 @@
 package com.yuwang.shorturlserver.adapter.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuwang.shorturlserver.adapter.ratelimit.ClientRateLimiter;
+import com.yuwang.shorturlserver.adapter.ratelimit.RateLimitInterceptor;
+import com.yuwang.shorturlserver.config.RateLimitProperties;
+import lombok.AllArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.HashMap;
+import java.util.Map;
+
 @Configuration
+@AllArgsConstructor
 public class WebMvcConfig implements WebMvcConfigurer {
 
+    private final RateLimitProperties rateLimitProperties;
+    private final ClientRateLimiter clientRateLimiter;
+    private final ObjectMapper objectMapper;
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -16,4 +30,18 @@ public class WebMvcConfig implements WebMvcConfigurer {
                 .allowCredentials(true)
                 .maxAge(3600);
     }
-}
\ No newline at end of file
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (!rateLimitProperties.isEnabled()) {
+            return;
+        }
+        Map<String, String> clientsByApiKey = new HashMap<>();
+        rateLimitProperties.getApiKeys().forEach((client, apiKey) -> clientsByApiKey.put(apiKey, client));
+        rateLimitProperties.getRules().forEach((name, rule) -> registry
+                .addInterceptor(new RateLimitInterceptor(name, rule, rateLimitProperties.getApiKeyHeader(),
+                        clientsByApiKey, clientRateLimiter, objectMapper))
+                .addPathPatterns(rule.getPathPatterns())
+                .excludePathPatterns(rule.getExcludePathPatterns()));
+    }
+}
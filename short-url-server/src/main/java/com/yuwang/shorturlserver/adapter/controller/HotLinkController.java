@@ -0,0 +1,43 @@
+package com.yuwang.shorturlserver.adapter.controller;
+
+import com.yuwang.shorturlserver.adapter.vo.BaseResult;
+import com.yuwang.shorturlserver.adapter.vo.HotLinkVO;
+import com.yuwang.shorturlserver.config.ShortUrlProperties;
+import com.yuwang.shorturlserver.domain.hotlink.HotLinkCache;
+import com.yuwang.shorturlserver.domain.hotlink.HotLinkTracker;
+import lombok.AllArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * REST controller exposing the hot links currently detected on the redirect path.
+ */
+@RestController
+@RequestMapping("/api/hotlinks")
+@AllArgsConstructor
+public class HotLinkController {
+
+    private final HotLinkTracker hotLinkTracker;
+    private final HotLinkCache hotLinkCache;
+    private final ShortUrlProperties shortUrlProperties;
+
+    // scope=cluster merges the snapshots of all nodes, scope=node only this node
+    @GetMapping
+    public BaseResult<List<HotLinkVO>> listHotLinks(@RequestParam(value = "scope", defaultValue = "cluster") String scope) {
+        List<HotLinkVO> voList = hotLinkTracker.getHotLinks(!"node".equalsIgnoreCase(scope)).stream()
+                .map(hotLink -> {
+                    HotLinkVO vo = new HotLinkVO();
+                    vo.setShortCode(hotLink.getShortCode());
+                    vo.setShortUrl(shortUrlProperties.getDomainPrefix() + hotLink.getShortCode());
+                    vo.setRatePerSecond(hotLink.getRatePerSecond());
+                    vo.setPinned(hotLinkCache.isPinned(hotLink.getShortCode()));
+                    return vo;
+                })
+                .toList();
+        return BaseResult.success(voList);
+    }
+}
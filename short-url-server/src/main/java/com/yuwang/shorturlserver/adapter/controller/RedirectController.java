@@ -1,5 +1,6 @@
 package com.yuwang.shorturlserver.adapter.controller;
 
+import com.yuwang.shorturlserver.domain.hotlink.HotLinkTracker;
 import com.yuwang.shorturlserver.domain.model.UrlAccessLog;
 import com.yuwang.shorturlserver.domain.repository.UrlAccessLogMapper;
 import com.yuwang.shorturlserver.domain.service.ShortUrlService;
@@ -26,6 +27,7 @@ public class RedirectController {
 
     private final ShortUrlService shortUrlService;
     private final UrlAccessLogMapper urlAccessLogMapper;
+    private final HotLinkTracker hotLinkTracker;
 
     @GetMapping("/{shortCode}")
     public ResponseEntity<Void> redirectToLongUrl(@PathVariable("shortCode") String shortCode, 
@@ -35,7 +37,8 @@ public class RedirectController {
             // handle error: short code not found or expired
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
-        
+        hotLinkTracker.record(shortCode);
+
         // 记录访问日志
         UrlAccessLog accessLog = new UrlAccessLog();
         accessLog.setShortCode(shortCode);
@@ -0,0 +1,138 @@
+package com.yuwang.shorturlserver.adapter.ratelimit;
+
+import com.yuwang.shorturlserver.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-client rate limiter: a local token bucket decides every request without I/O,
+ * while a periodic sync pushes granted permits to a Redis sliding window to enforce the cluster-wide limit.
+ */
+@Slf4j
+@Component
+public class ClientRateLimiter {
+    private static final String KEY_PREFIX = "ratelimit:";
+
+    private final RateLimitProperties properties;
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+    private final Map<BucketKey, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Counter> throttledCounters = new ConcurrentHashMap<>();
+
+    public ClientRateLimiter(RateLimitProperties properties, RedissonClient redissonClient, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redissonClient = redissonClient;
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("shorturl.ratelimit.buckets", buckets, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * 尝试为客户端获取一个令牌
+     *
+     * @param ruleName  限流规则名
+     * @param rule      限流规则
+     * @param clientKey 客户端标识（ip:客户端 IP 或 key:已登记的客户端名称）
+     * @return 0 表示放行，否则为建议的重试等待纳秒数
+     */
+    public long tryAcquire(String ruleName, RateLimitProperties.Rule rule, String clientKey) {
+        TokenBucket bucket = buckets.computeIfAbsent(new BucketKey(ruleName, clientKey),
+                key -> new TokenBucket(rule.getBurst(), rule.getPermitsPerSecond()));
+        long now = System.nanoTime();
+        if (bucket.isClusterBlocked(now)) {
+            throttled(ruleName, "cluster");
+            return properties.getSyncInterval().toNanos();
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        if (waitNanos > 0) {
+            throttled(ruleName, "local");
+        }
+        return waitNanos;
+    }
+
+    /**
+     * 将本地放行计数同步到 Redis 滑动窗口，并根据集群总量更新各客户端的封禁状态
+     */
+    @Scheduled(fixedDelayString = "#{@rateLimitProperties.syncInterval.toMillis()}")
+    public void sync() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleTimeout().toNanos();
+        long windowMillis = properties.getWindow().toMillis();
+        long epochMillis = System.currentTimeMillis();
+        long windowIndex = epochMillis / windowMillis;
+        double elapsedFraction = (epochMillis % windowMillis) / (double) windowMillis;
+
+        List<PendingSync> pending = new ArrayList<>();
+        RBatch batch = redissonClient.createBatch();
+        for (Map.Entry<BucketKey, TokenBucket> entry : buckets.entrySet()) {
+            BucketKey key = entry.getKey();
+            TokenBucket bucket = entry.getValue();
+            long permits = bucket.drainUnsyncedPermits();
+            if (permits == 0 && bucket.isIdle(now, idleNanos)) {
+                buckets.remove(key, bucket);
+                continue;
+            }
+            RateLimitProperties.Rule rule = properties.getRules().get(key.ruleName());
+            if (rule == null || rule.getClusterPermitsPerSecond() <= 0 || (permits == 0 && !bucket.isClusterBlocked(now))) {
+                continue;
+            }
+            String currentKey = KEY_PREFIX + key.ruleName() + ":" + key.clientKey() + ":" + windowIndex;
+            String previousKey = KEY_PREFIX + key.ruleName() + ":" + key.clientKey() + ":" + (windowIndex - 1);
+            RFuture<Long> current = batch.getAtomicLong(currentKey).addAndGetAsync(permits);
+            batch.getAtomicLong(currentKey).expireAsync(properties.getWindow().multipliedBy(2));
+            RFuture<Long> previous = batch.getAtomicLong(previousKey).getAsync();
+            double limit = rule.getClusterPermitsPerSecond() * properties.getWindow().toMillis() / 1000d;
+            pending.add(new PendingSync(bucket, current, previous, limit));
+        }
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        try {
+            batch.execute();
+        } catch (Exception e) {
+            // Redis unavailable: keep enforcing the local buckets only
+            log.warn("Rate limit sync to redis failed: {}", e.getMessage());
+            return;
+        }
+        long blockUntil = now + properties.getSyncInterval().multipliedBy(2).toNanos();
+        for (PendingSync sync : pending) {
+            long current = sync.current().toCompletableFuture().join();
+            long previous = sync.previous().toCompletableFuture().join();
+            if (slidingWindowEstimate(current, previous, elapsedFraction) > sync.limit()) {
+                sync.bucket().blockCluster(blockUntil);
+            } else {
+                sync.bucket().unblockCluster();
+            }
+        }
+    }
+
+    // weights the previous window by the part of it still inside the sliding window
+    static double slidingWindowEstimate(long current, long previous, double elapsedFraction) {
+        return current + previous * (1 - elapsedFraction);
+    }
+
+    private void throttled(String ruleName, String scope) {
+        throttledCounters.computeIfAbsent(ruleName + ":" + scope, key -> Counter.builder("shorturl.ratelimit.throttled")
+                .tag("rule", ruleName)
+                .tag("scope", scope)
+                .register(meterRegistry)).increment();
+    }
+
+    private record BucketKey(String ruleName, String clientKey) {
+    }
+
+    private record PendingSync(TokenBucket bucket, RFuture<Long> current, RFuture<Long> previous, double limit) {
+    }
+}
@@ -0,0 +1,70 @@
+package com.yuwang.shorturlserver.adapter.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuwang.shorturlserver.adapter.vo.BaseResult;
+import com.yuwang.shorturlserver.config.RateLimitProperties;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StringUtils;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rejects requests over the configured rate with 429 before they reach any controller.
+ * One instance is registered per rule in {@link com.yuwang.shorturlserver.adapter.config.WebMvcConfig}.
+ * <p>
+ * Every request is charged to its client IP; a registered API key is charged on top, never instead, so rotating
+ * made-up keys does not reset the limit. The IP comes from {@code getRemoteAddr()}, which behind a reverse proxy
+ * relies on {@code server.forward-headers-strategy} to reflect the real client.
+ */
+@AllArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final String ruleName;
+    private final RateLimitProperties.Rule rule;
+    private final String apiKeyHeader;
+    // API key -> registered client name
+    private final Map<String, String> clientsByApiKey;
+    private final ClientRateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        long waitNanos = rateLimiter.tryAcquire(ruleName, rule, "ip:" + request.getRemoteAddr());
+        if (waitNanos == 0) {
+            String client = resolveApiClient(request);
+            if (client == null) {
+                return true;
+            }
+            waitNanos = rateLimiter.tryAcquire(ruleName, rule, "key:" + client);
+            if (waitNanos == 0) {
+                return true;
+            }
+        }
+
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getWriter(), BaseResult.error("请求过于频繁，请稍后再试"));
+        return false;
+    }
+
+    // only registered keys get a bucket of their own, unknown keys are ignored
+    private String resolveApiClient(HttpServletRequest request) {
+        String apiKey = request.getHeader(apiKeyHeader);
+        return StringUtils.hasText(apiKey) ? clientsByApiKey.get(apiKey) : null;
+    }
+}
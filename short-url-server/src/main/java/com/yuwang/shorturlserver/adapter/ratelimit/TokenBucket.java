@@ -0,0 +1,65 @@
+package com.yuwang.shorturlserver.adapter.ratelimit;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Node-local token bucket for one client on one rule.
+ * Also tracks the permits granted since the last Redis sync and whether the cluster-wide window is exhausted.
+ */
+class TokenBucket {
+    private final double capacity;
+    private final double permitsPerNano;
+    private double tokens;
+    private long lastRefillNanos;
+
+    private final LongAdder unsyncedPermits = new LongAdder();
+    private volatile long lastAccessNanos;
+    private volatile boolean clusterBlocked;
+    private volatile long clusterBlockedUntilNanos;
+
+    TokenBucket(int burst, double permitsPerSecond) {
+        this.capacity = burst;
+        this.permitsPerNano = permitsPerSecond / 1_000_000_000d;
+        this.tokens = burst;
+        this.lastRefillNanos = System.nanoTime();
+        this.lastAccessNanos = lastRefillNanos;
+    }
+
+    /**
+     * @return 0 when a permit was granted, otherwise the number of nanos until one becomes available
+     */
+    long tryAcquire(long now) {
+        lastAccessNanos = now;
+        synchronized (this) {
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * permitsPerNano);
+            lastRefillNanos = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                unsyncedPermits.increment();
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) / permitsPerNano);
+        }
+    }
+
+    boolean isClusterBlocked(long now) {
+        return clusterBlocked && clusterBlockedUntilNanos - now > 0;
+    }
+
+    void blockCluster(long untilNanos) {
+        clusterBlockedUntilNanos = untilNanos;
+        clusterBlocked = true;
+    }
+
+    void unblockCluster() {
+        clusterBlocked = false;
+    }
+
+    long drainUnsyncedPermits() {
+        return unsyncedPermits.sumThenReset();
+    }
+
+    boolean isIdle(long now, long idleNanos) {
+        return now - lastAccessNanos > idleNanos && !isClusterBlocked(now);
+    }
+}
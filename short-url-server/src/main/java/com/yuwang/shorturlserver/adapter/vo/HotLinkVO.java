@@ -0,0 +1,11 @@
+package com.yuwang.shorturlserver.adapter.vo;
+
+import lombok.Data;
+
+@Data
+public class HotLinkVO {
+    private String shortCode;
+    private String shortUrl;
+    private double ratePerSecond;
+    private boolean pinned;
+}
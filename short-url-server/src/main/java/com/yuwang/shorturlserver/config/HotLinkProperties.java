@@ -0,0 +1,67 @@
+package com.yuwang.shorturlserver.config;
+
+import jakarta.validation.constraints.Min;
+import lombok.Data;
+import org.hibernate.validator.constraints.time.DurationMin;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@Data
+@Validated
+@Configuration
+@ConfigurationProperties(prefix = "short-url.hot-link")
+public class HotLinkProperties {
+    /**
+     * 节点标识，为空时使用 pid@hostname
+     */
+    private String nodeId;
+
+    /**
+     * 每个节点跟踪的热点短码数量
+     */
+    @Min(1)
+    private int topK = 100;
+
+    /**
+     * Count-Min Sketch 每行的计数器个数
+     */
+    @Min(1)
+    private int sketchWidth = 4096;
+
+    /**
+     * Count-Min Sketch 的哈希函数个数
+     */
+    @Min(1)
+    private int sketchDepth = 4;
+
+    /**
+     * 计数衰减的半衰期
+     */
+    @DurationMin(millis = 1)
+    private Duration decayHalfLife = Duration.ofMinutes(1);
+
+    /**
+     * 衰减、发布到 Redis 以及刷新本地缓存的间隔
+     */
+    @DurationMin(millis = 1)
+    private Duration publishInterval = Duration.ofSeconds(5);
+
+    /**
+     * 节点快照在 Redis 中的存活时间，节点下线后其快照自动过期
+     */
+    private Duration snapshotTtl = Duration.ofSeconds(30);
+
+    /**
+     * 固定在本地缓存中的热点短码数量上限
+     */
+    @Min(1)
+    private int pinSize = 50;
+
+    /**
+     * 进入本地缓存的最低访问速率（次/秒）
+     */
+    private double minPinRate = 1.0;
+}
@@ -0,0 +1,69 @@
+package com.yuwang.shorturlserver.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "short-url.rate-limit")
+public class RateLimitProperties {
+    /**
+     * 是否开启限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 携带 API Key 的请求头；请求始终按客户端 IP 限流，携带已登记的 API Key 时再额外按该 Key 限流
+     */
+    private String apiKeyHeader = "X-API-Key";
+
+    /**
+     * 已登记的 API Key，key 为客户端名称（用于限流计数键，不暴露 Key 本身），value 为 API Key；未登记的 Key 被忽略
+     */
+    private Map<String, String> apiKeys = new LinkedHashMap<>();
+
+    /**
+     * 本地计数同步到 Redis 的间隔
+     */
+    private Duration syncInterval = Duration.ofSeconds(1);
+
+    /**
+     * Redis 滑动窗口长度
+     */
+    private Duration window = Duration.ofSeconds(10);
+
+    /**
+     * 本地令牌桶闲置多久后被回收
+     */
+    private Duration idleTimeout = Duration.ofMinutes(1);
+
+    /**
+     * 按接口配置的限流规则，key 为规则名
+     */
+    private Map<String, Rule> rules = new LinkedHashMap<>();
+
+    @Data
+    public static class Rule {
+        private List<String> pathPatterns = new ArrayList<>();
+        private List<String> excludePathPatterns = new ArrayList<>();
+        /**
+         * 单节点每秒发放的令牌数
+         */
+        private double permitsPerSecond = 10;
+        /**
+         * 单节点令牌桶容量，允许的突发请求数
+         */
+        private int burst = 20;
+        /**
+         * 集群维度每秒允许的请求数，小于等于 0 时不做集群限流
+         */
+        private double clusterPermitsPerSecond = 0;
+    }
+}
@@ -4,6 +4,8 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "short-url")
@@ -12,4 +14,15 @@ public class ShortUrlProperties {
      * 短链接域名前缀，默认为 https://short.ly
      */
     private String domainPrefix = "http://localhost:8080/";
+
+    /**
+     * 是否开启长链接去重，开启后未指定短码和过期时间的重复创建会返回已有短码。
+     * 只有开启后创建的短链接会写入 long_url_hash，之前的数据不做回填，不参与去重
+     */
+    private boolean dedupEnabled = false;
+
+    /**
+     * 去重索引在 Redis 中的缓存时间，过期后回源数据库唯一索引
+     */
+    private Duration dedupCacheTtl = Duration.ofDays(1);
 }
\ No newline at end of file
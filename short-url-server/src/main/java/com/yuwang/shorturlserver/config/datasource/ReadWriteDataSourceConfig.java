@@ -0,0 +1,56 @@
+package com.yuwang.shorturlserver.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离数据源配置：主库沿用 spring.datasource，从库由 short-url.datasource.replicas 配置
+ */
+@Configuration
+public class ReadWriteDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public ReadWriteRoutingDataSource dataSource(HikariDataSource primaryDataSource,
+                                                 DataSourceProperties dataSourceProperties,
+                                                 ReadWriteDataSourceProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        List<ReplicaNode> replicas = new ArrayList<>();
+        for (int i = 0; i < properties.getReplicas().size(); i++) {
+            ReadWriteDataSourceProperties.Replica replica = properties.getReplicas().get(i);
+            String name = "replica-" + i;
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName(name);
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            dataSource.setUsername(StringUtils.hasText(replica.getUsername())
+                    ? replica.getUsername() : dataSourceProperties.determineUsername());
+            dataSource.setPassword(StringUtils.hasText(replica.getPassword())
+                    ? replica.getPassword() : dataSourceProperties.determinePassword());
+            dataSource.setReadOnly(true);
+            // 从库不可用时不阻塞启动，由健康检查负责摘除
+            dataSource.setInitializationFailTimeout(-1);
+            // 从库宕机时尽快失败，避免阻塞健康检查与回退主库的读请求
+            dataSource.setConnectionTimeout(properties.getReplicaConnectionTimeout().toMillis());
+            replicas.add(new ReplicaNode(name, dataSource));
+        }
+        return new ReadWriteRoutingDataSource(primaryDataSource, replicas, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,52 @@
+package com.yuwang.shorturlserver.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "short-url.datasource")
+public class ReadWriteDataSourceProperties {
+    /**
+     * 从库列表，为空时所有读写都走主库
+     */
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * 从库健康检查间隔
+     */
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+
+    /**
+     * 从库连接池获取连接的超时时间，Hikari 最小值为 250ms
+     */
+    private Duration replicaConnectionTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 从库允许的最大复制延迟，超过后该从库不再接收读请求
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(3);
+
+    /**
+     * 写入后的读主窗口，窗口内同一短码的读请求强制走主库，保证创建后立即可读
+     */
+    private Duration readAfterWriteWindow = Duration.ofSeconds(5);
+
+    @Data
+    public static class Replica {
+        private String url;
+        /**
+         * 为空时沿用主库的用户名
+         */
+        private String username;
+        /**
+         * 为空时沿用主库的密码
+         */
+        private String password;
+    }
+}
@@ -0,0 +1,202 @@
+package com.yuwang.shorturlserver.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Routes JDBC connections between the primary and the read replicas.
+ * Everything goes to the primary unless the caller explicitly opts in via {@link #readFromReplica}.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+    private static final String PRIMARY_KEY = "primary";
+    private static final ThreadLocal<String> CONSISTENCY_KEY = new ThreadLocal<>();
+
+    private final List<ReplicaNode> replicas;
+    private final ReadWriteDataSourceProperties properties;
+    private final AtomicInteger cursor = new AtomicInteger();
+    // consistency key -> deadline (nanoTime) until which reads must stay on the primary
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+
+    private final Counter primaryCounter;
+    private final Counter replicaCounter;
+    private final Counter fallbackCounter;
+    private final Counter stickyCounter;
+
+    public ReadWriteRoutingDataSource(HikariDataSource primary, List<ReplicaNode> replicas,
+                                      ReadWriteDataSourceProperties properties, MeterRegistry meterRegistry) {
+        this.replicas = replicas;
+        this.properties = properties;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+
+        this.primaryCounter = routeCounter(meterRegistry, "primary");
+        this.replicaCounter = routeCounter(meterRegistry, "replica");
+        this.fallbackCounter = routeCounter(meterRegistry, "fallback");
+        this.stickyCounter = routeCounter(meterRegistry, "sticky");
+        replicas.forEach(replica -> {
+            Gauge.builder("shorturl.datasource.replica.healthy", replica, r -> r.isHealthy() ? 1 : 0)
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+            Gauge.builder("shorturl.datasource.replica.lag", replica, ReplicaNode::getLagSeconds)
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+        });
+    }
+
+    /**
+     * 在从库上执行只读查询
+     *
+     * @param consistencyKey 一致性键（如短码），该键最近写入过时改为读主库，可为 null
+     * @param query          查询逻辑
+     * @return 查询结果
+     */
+    public <T> T readFromReplica(String consistencyKey, Supplier<T> query) {
+        String previous = CONSISTENCY_KEY.get();
+        CONSISTENCY_KEY.set(consistencyKey == null ? "" : consistencyKey);
+        try {
+            return query.get();
+        } finally {
+            if (previous == null) {
+                CONSISTENCY_KEY.remove();
+            } else {
+                CONSISTENCY_KEY.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 记录一次写入，读主窗口内该键的从库读请求会被路由到主库
+     *
+     * @param consistencyKey 一致性键（如短码）
+     */
+    public void markWritten(String consistencyKey) {
+        if (replicas.isEmpty()) {
+            return;
+        }
+        long window = Math.max(properties.getReadAfterWriteWindow().toNanos(), properties.getMaxReplicaLag().toNanos());
+        recentWrites.put(consistencyKey, System.nanoTime() + window);
+    }
+
+    /**
+     * 探测所有从库并清理过期的写入记录
+     */
+    public void checkReplicas() {
+        replicas.forEach(ReplicaNode::check);
+        long now = System.nanoTime();
+        recentWrites.values().removeIf(deadline -> deadline - now <= 0);
+    }
+
+    /**
+     * A replica can die between health checks: if its pool cannot hand out a connection,
+     * take the replica out of rotation and serve the read from the primary instead of failing it.
+     * The route is decided once here so each connection is counted under exactly one route.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connect(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return connect(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    private Connection connect(ConnectionSource source) throws SQLException {
+        Route route = route();
+        if (route.replica() == null) {
+            route.counter().increment();
+            return source.get(getResolvedDefaultDataSource());
+        }
+        Connection connection;
+        try {
+            connection = source.get(route.replica().getDataSource());
+        } catch (SQLException e) {
+            route.replica().markUnhealthy(e.getMessage());
+            fallbackCounter.increment();
+            return source.get(getResolvedDefaultDataSource());
+        }
+        route.counter().increment();
+        return connection;
+    }
+
+    // only reached through unwrap/isWrapperFor, connections are routed in connect()
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Route route = route();
+        return route.replica() == null ? PRIMARY_KEY : route.replica().getName();
+    }
+
+    private Route route() {
+        String consistencyKey = CONSISTENCY_KEY.get();
+        if (consistencyKey == null || replicas.isEmpty()) {
+            return new Route(null, primaryCounter);
+        }
+        if (!consistencyKey.isEmpty() && isRecentlyWritten(consistencyKey)) {
+            return new Route(null, stickyCounter);
+        }
+        ReplicaNode replica = selectReplica();
+        if (replica == null) {
+            return new Route(null, fallbackCounter);
+        }
+        return new Route(replica, replicaCounter);
+    }
+
+    private boolean isRecentlyWritten(String consistencyKey) {
+        Long deadline = recentWrites.get(consistencyKey);
+        return deadline != null && deadline - System.nanoTime() > 0;
+    }
+
+    // round-robin over replicas that are healthy and within the lag budget
+    private ReplicaNode selectReplica() {
+        int size = replicas.size();
+        long maxLag = properties.getMaxReplicaLag().toSeconds();
+        int start = Math.floorMod(cursor.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            ReplicaNode replica = replicas.get((start + i) % size);
+            if (replica.isHealthy() && replica.getLagSeconds() <= maxLag) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    private static Counter routeCounter(MeterRegistry meterRegistry, String route) {
+        return Counter.builder("shorturl.datasource.route")
+                .tag("route", route)
+                .register(meterRegistry);
+    }
+
+    // replica is null when the connection goes to the primary
+    private record Route(ReplicaNode replica, Counter counter) {
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection get(DataSource dataSource) throws SQLException;
+    }
+
+    // the primary pool is a bean of its own and is closed by the container
+    @Override
+    public void close() {
+        replicas.forEach(replica -> replica.getDataSource().close());
+    }
+}
@@ -0,0 +1,20 @@
+package com.yuwang.shorturlserver.config.datasource;
+
+import lombok.AllArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+@Component
+@AllArgsConstructor
+public class ReplicaHealthChecker {
+
+    private final ReadWriteRoutingDataSource routingDataSource;
+
+    /**
+     * 定时探测从库健康状态与复制延迟
+     */
+    @Scheduled(fixedDelayString = "#{@readWriteDataSourceProperties.healthCheckInterval.toMillis()}")
+    public void checkReplicas() {
+        routingDataSource.checkReplicas();
+    }
+}
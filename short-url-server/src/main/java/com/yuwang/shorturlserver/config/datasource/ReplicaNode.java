@@ -0,0 +1,80 @@
+package com.yuwang.shorturlserver.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * A single read replica together with its last observed health and replication lag.
+ */
+@Slf4j
+@Getter
+public class ReplicaNode {
+    private static final int VALIDATION_TIMEOUT_SECONDS = 2;
+
+    private final String name;
+    private final HikariDataSource dataSource;
+    // starts UNKNOWN so the very first failed probe is logged as well
+    private volatile State state = State.UNKNOWN;
+    private volatile long lagSeconds;
+
+    public ReplicaNode(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    public boolean isHealthy() {
+        return state == State.HEALTHY;
+    }
+
+    /**
+     * Probes the replica and refreshes {@link #state} and {@link #lagSeconds}.
+     * A replica whose SQL/IO thread is stopped reports a NULL lag and is treated as unhealthy.
+     */
+    public void check() {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(VALIDATION_TIMEOUT_SECONDS)) {
+                markUnhealthy("connection is not valid");
+                return;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+                long lag = 0;
+                if (rs.next()) {
+                    Object secondsBehind = rs.getObject("Seconds_Behind_Source");
+                    if (secondsBehind == null) {
+                        markUnhealthy("replication is not running");
+                        return;
+                    }
+                    lag = ((Number) secondsBehind).longValue();
+                }
+                lagSeconds = lag;
+                markHealthy();
+            }
+        } catch (Exception e) {
+            markUnhealthy(e.getMessage());
+        }
+    }
+
+    private void markHealthy() {
+        if (state != State.HEALTHY) {
+            log.info("Replica {} is healthy, lag {}s", name, lagSeconds);
+        }
+        state = State.HEALTHY;
+    }
+
+    void markUnhealthy(String reason) {
+        if (state != State.UNHEALTHY) {
+            log.warn("Replica {} marked unhealthy: {}", name, reason);
+        }
+        state = State.UNHEALTHY;
+    }
+
+    public enum State {
+        UNKNOWN, HEALTHY, UNHEALTHY
+    }
+}
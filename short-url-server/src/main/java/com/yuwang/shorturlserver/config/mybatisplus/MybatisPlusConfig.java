@@ -32,14 +32,23 @@ public class MybatisPlusConfig {
         return interceptor;
     }
 
+    /**
+     * 自定义 SqlSessionFactory 不会经过 MyBatis-Plus 自动配置，全局配置（自动填充）和插件需要在这里手动注册
+     */
     @Bean
-    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource, GlobalConfig globalConfig,
+                                               MyMetaObjectHandler metaObjectHandler,
+                                               MybatisPlusInterceptor mybatisPlusInterceptor) throws Exception {
         MybatisSqlSessionFactoryBean sqlSessionFactory = new MybatisSqlSessionFactoryBean();
         sqlSessionFactory.setDataSource(dataSource);
         
         MybatisConfiguration configuration = new MybatisConfiguration();
         configuration.setMapUnderscoreToCamelCase(true);
         sqlSessionFactory.setConfiguration(configuration);
+
+        globalConfig.setMetaObjectHandler(metaObjectHandler);
+        sqlSessionFactory.setGlobalConfig(globalConfig);
+        sqlSessionFactory.setPlugins(mybatisPlusInterceptor);
         
         return sqlSessionFactory.getObject();
     }
@@ -0,0 +1,16 @@
+package com.yuwang.shorturlserver.domain.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotLinkDTO {
+    private String shortCode;
+    /**
+     * 近似访问速率（次/秒）
+     */
+    private double ratePerSecond;
+}
@@ -0,0 +1,57 @@
+package com.yuwang.shorturlserver.domain.hotlink;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free count-min sketch with multiplicative decay.
+ * Estimates never under-count; over-counting is bounded by the sketch width.
+ */
+class CountMinSketch {
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    /**
+     * Adds one occurrence of the key and returns its new estimated count.
+     */
+    long increment(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long count = counters.incrementAndGet(index(row, hash));
+            estimate = Math.min(estimate, count);
+        }
+        return estimate;
+    }
+
+    long estimate(String key) {
+        int hash = key.hashCode();
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(row, hash)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Multiplies every counter by the given factor so old traffic fades out.
+     */
+    void decay(double factor) {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.updateAndGet(i, count -> (long) (count * factor));
+        }
+    }
+
+    private int index(int row, int hash) {
+        // derive an independent hash per row by remixing with a row-specific odd constant
+        int h = hash * (0x9E3779B1 + row * 0x632BE5AA);
+        h ^= h >>> 16;
+        return row * width + Math.floorMod(h, width);
+    }
+}
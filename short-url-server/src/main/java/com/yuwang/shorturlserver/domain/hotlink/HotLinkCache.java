@@ -0,0 +1,55 @@
+package com.yuwang.shorturlserver.domain.hotlink;
+
+import com.yuwang.shorturlserver.domain.dto.UrlCacheDTO;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process cache holding only the codes currently pinned as hot, so their redirects skip Redis.
+ */
+@Component
+public class HotLinkCache {
+    private final Map<String, PinnedUrl> pinned = new ConcurrentHashMap<>();
+
+    /**
+     * 获取本地缓存的短链接信息
+     *
+     * @param shortCode 短码
+     * @return 缓存信息，未固定或已过期则返回null
+     */
+    public UrlCacheDTO get(String shortCode) {
+        PinnedUrl pinnedUrl = pinned.get(shortCode);
+        if (pinnedUrl == null) {
+            return null;
+        }
+        if (pinnedUrl.expiresAtMillis() > 0 && pinnedUrl.expiresAtMillis() <= System.currentTimeMillis()) {
+            pinned.remove(shortCode, pinnedUrl);
+            return null;
+        }
+        return pinnedUrl.url();
+    }
+
+    public boolean isPinned(String shortCode) {
+        return pinned.containsKey(shortCode);
+    }
+
+    /**
+     * @param expiresAtMillis 过期时间戳，小于等于 0 表示永不过期
+     */
+    void pin(String shortCode, UrlCacheDTO url, long expiresAtMillis) {
+        pinned.put(shortCode, new PinnedUrl(url, expiresAtMillis));
+    }
+
+    /**
+     * 只保留仍然是热点的短码
+     */
+    void retainOnly(Set<String> hotCodes) {
+        pinned.keySet().retainAll(hotCodes);
+    }
+
+    private record PinnedUrl(UrlCacheDTO url, long expiresAtMillis) {
+    }
+}
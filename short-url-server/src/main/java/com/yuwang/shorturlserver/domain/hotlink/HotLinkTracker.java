@@ -0,0 +1,211 @@
+package com.yuwang.shorturlserver.domain.hotlink;
+
+import com.yuwang.shorturlserver.config.HotLinkProperties;
+import com.yuwang.shorturlserver.domain.dto.HotLinkDTO;
+import com.yuwang.shorturlserver.domain.dto.UrlCacheDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming heavy-hitters tracker for redirects.
+ * A decaying count-min sketch estimates per-code counts and a min-heap keeps the current top K;
+ * every publish interval the node snapshot is shared through Redis and the hottest codes are pinned in {@link HotLinkCache}.
+ */
+@Slf4j
+@Component
+public class HotLinkTracker {
+    private static final String NODES_KEY = "hotlinks:nodes";
+
+    private final HotLinkProperties properties;
+    private final RedissonClient redissonClient;
+    private final HotLinkCache hotLinkCache;
+    private final String nodeId;
+    private final CountMinSketch sketch;
+
+    // top-K candidates; heap counts may lag behind the sketch and are refreshed lazily on eviction
+    private final Set<String> candidates = ConcurrentHashMap.newKeySet();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingLong(Candidate::count));
+    private volatile long admissionThreshold;
+    private long lastTickNanos = System.nanoTime();
+
+    private volatile List<HotLinkDTO> nodeHotLinks = List.of();
+    private volatile List<HotLinkDTO> clusterHotLinks = List.of();
+
+    public HotLinkTracker(HotLinkProperties properties, RedissonClient redissonClient, HotLinkCache hotLinkCache) {
+        this.properties = properties;
+        this.redissonClient = redissonClient;
+        this.hotLinkCache = hotLinkCache;
+        this.nodeId = StringUtils.hasText(properties.getNodeId())
+                ? properties.getNodeId() : ManagementFactory.getRuntimeMXBean().getName();
+        this.sketch = new CountMinSketch(properties.getSketchWidth(), properties.getSketchDepth());
+    }
+
+    /**
+     * 记录一次跳转
+     *
+     * @param shortCode 短码
+     */
+    public void record(String shortCode) {
+        long estimate = sketch.increment(shortCode);
+        if (candidates.contains(shortCode) || estimate <= admissionThreshold) {
+            return;
+        }
+        synchronized (heap) {
+            if (candidates.contains(shortCode)) {
+                return;
+            }
+            if (heap.size() < properties.getTopK()) {
+                admit(shortCode, estimate);
+                return;
+            }
+            Candidate min = refreshedMin();
+            if (estimate > min.count()) {
+                heap.poll();
+                candidates.remove(min.shortCode());
+                admit(shortCode, estimate);
+            }
+            admissionThreshold = heap.peek().count();
+        }
+    }
+
+    /**
+     * 获取当前热点短码
+     *
+     * @param cluster true 返回集群维度的热点，false 返回本节点的热点
+     * @return 按访问速率降序排列的热点短码
+     */
+    public List<HotLinkDTO> getHotLinks(boolean cluster) {
+        return cluster ? clusterHotLinks : nodeHotLinks;
+    }
+
+    /**
+     * 衰减计数、发布本节点快照、合并集群快照并刷新本地固定缓存
+     */
+    @Scheduled(fixedDelayString = "#{@hotLinkProperties.publishInterval.toMillis()}")
+    public void tick() {
+        nodeHotLinks = decayAndSnapshot();
+        clusterHotLinks = publishAndMerge(nodeHotLinks);
+        refreshPinned(clusterHotLinks);
+    }
+
+    private List<HotLinkDTO> decayAndSnapshot() {
+        synchronized (heap) {
+            long now = System.nanoTime();
+            double elapsedSeconds = Math.max(1e-3, (now - lastTickNanos) / 1e9);
+            lastTickNanos = now;
+            double decay = decayFactor(elapsedSeconds, properties.getDecayHalfLife().toMillis() / 1000d);
+
+            List<HotLinkDTO> snapshot = new ArrayList<>(candidates.size());
+            for (String shortCode : candidates) {
+                snapshot.add(new HotLinkDTO(shortCode, ratePerSecond(sketch.estimate(shortCode), decay, elapsedSeconds)));
+            }
+            snapshot.sort(Comparator.comparingDouble(HotLinkDTO::getRatePerSecond).reversed());
+
+            sketch.decay(decay);
+            heap.clear();
+            candidates.clear();
+            for (HotLinkDTO hotLink : snapshot) {
+                long count = sketch.estimate(hotLink.getShortCode());
+                if (count > 0) {
+                    admit(hotLink.getShortCode(), count);
+                }
+            }
+            admissionThreshold = heap.size() < properties.getTopK() ? 0 : heap.peek().count();
+            return List.copyOf(snapshot);
+        }
+    }
+
+    private List<HotLinkDTO> publishAndMerge(List<HotLinkDTO> local) {
+        try {
+            RMapCache<String, ArrayList<HotLinkDTO>> nodes = redissonClient.getMapCache(NODES_KEY);
+            nodes.fastPut(nodeId, new ArrayList<>(local), properties.getSnapshotTtl().toMillis(), TimeUnit.MILLISECONDS);
+
+            Map<String, Double> rates = new HashMap<>();
+            for (List<HotLinkDTO> snapshot : nodes.readAllValues()) {
+                snapshot.forEach(hotLink -> rates.merge(hotLink.getShortCode(), hotLink.getRatePerSecond(), Double::sum));
+            }
+            return rates.entrySet().stream()
+                    .sorted(Map.Entry.<String, Double>comparingByValue().reversed())
+                    .limit(properties.getTopK())
+                    .map(entry -> new HotLinkDTO(entry.getKey(), entry.getValue()))
+                    .toList();
+        } catch (Exception e) {
+            log.warn("Failed to publish hot links to redis: {}", e.getMessage());
+            return local;
+        }
+    }
+
+    private void refreshPinned(List<HotLinkDTO> hotLinks) {
+        Set<String> hotCodes = new HashSet<>();
+        for (HotLinkDTO hotLink : hotLinks) {
+            if (hotCodes.size() >= properties.getPinSize() || hotLink.getRatePerSecond() < properties.getMinPinRate()) {
+                break;
+            }
+            hotCodes.add(hotLink.getShortCode());
+        }
+        hotLinkCache.retainOnly(hotCodes);
+        for (String shortCode : hotCodes) {
+            if (hotLinkCache.isPinned(shortCode)) {
+                continue;
+            }
+            try {
+                RBucket<UrlCacheDTO> bucket = redissonClient.getBucket("url:" + shortCode);
+                UrlCacheDTO cacheDTO = bucket.get();
+                if (cacheDTO == null) {
+                    continue;
+                }
+                long ttl = bucket.remainTimeToLive();
+                hotLinkCache.pin(shortCode, cacheDTO, ttl > 0 ? System.currentTimeMillis() + ttl : 0);
+            } catch (Exception e) {
+                log.warn("Failed to pin hot link {}: {}", shortCode, e.getMessage());
+            }
+        }
+    }
+
+    static double decayFactor(double elapsedSeconds, double halfLifeSeconds) {
+        return Math.pow(0.5, elapsedSeconds / halfLifeSeconds);
+    }
+
+    // with counts multiplied by `decay` each tick, a steady rate r converges to a count of r * elapsed / (1 - decay)
+    static double ratePerSecond(long count, double decay, double elapsedSeconds) {
+        return count * (1 - decay) / elapsedSeconds;
+    }
+
+    // pops stale heap entries and re-inserts them with their current estimate until the head is accurate
+    private Candidate refreshedMin() {
+        while (true) {
+            Candidate head = heap.peek();
+            long current = sketch.estimate(head.shortCode());
+            if (current <= head.count()) {
+                return head;
+            }
+            heap.poll();
+            heap.add(new Candidate(head.shortCode(), current));
+        }
+    }
+
+    private void admit(String shortCode, long count) {
+        heap.add(new Candidate(shortCode, count));
+        candidates.add(shortCode);
+    }
+
+    private record Candidate(String shortCode, long count) {
+    }
+}
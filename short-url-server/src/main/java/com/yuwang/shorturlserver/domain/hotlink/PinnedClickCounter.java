@@ -0,0 +1,82 @@
+package com.yuwang.shorturlserver.domain.hotlink;
+
+import com.yuwang.shorturlserver.domain.repository.ShortUrlMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Buffers clicks on pinned hot codes in memory and flushes them as one increment per code,
+ * so the pinned redirect path does no Redis or DB work for click counting.
+ */
+@Slf4j
+@Component
+public class PinnedClickCounter {
+    private final ShortUrlMapper shortUrlMapper;
+    private final RedissonClient redissonClient;
+    private final Map<String, PendingClicks> pending = new ConcurrentHashMap<>();
+
+    public PinnedClickCounter(ShortUrlMapper shortUrlMapper, RedissonClient redissonClient) {
+        this.shortUrlMapper = shortUrlMapper;
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * 记录一次点击，定时批量写入数据库
+     *
+     * @param shortCode 短码
+     * @param id        短链接主键
+     */
+    public void record(String shortCode, Long id) {
+        pending.computeIfAbsent(shortCode, code -> new PendingClicks(id)).clicks().increment();
+    }
+
+    /**
+     * 将缓冲的点击数累加到数据库
+     */
+    @Scheduled(fixedDelayString = "#{@hotLinkProperties.publishInterval.toMillis()}")
+    @PreDestroy
+    public void flush() {
+        for (Map.Entry<String, PendingClicks> entry : pending.entrySet()) {
+            String shortCode = entry.getKey();
+            PendingClicks clicks = entry.getValue();
+            long delta = clicks.clicks().sumThenReset();
+            if (delta == 0) {
+                // idle since the last flush, drop it so unpinned codes do not linger
+                pending.remove(shortCode, clicks);
+                long late = clicks.clicks().sumThenReset();
+                if (late > 0) {
+                    // a click raced with the removal, carry it over to a fresh entry
+                    pending.computeIfAbsent(shortCode, code -> new PendingClicks(clicks.id())).clicks().add(late);
+                }
+                continue;
+            }
+            // same lock as the per-click path, whose read-modify-write would otherwise overwrite this increment
+            RLock lock = redissonClient.getLock("lock:count:" + shortCode);
+            try {
+                lock.lock();
+                shortUrlMapper.addClickCount(clicks.id(), delta);
+            } catch (Exception e) {
+                clicks.clicks().add(delta);
+                log.warn("Failed to flush {} clicks for {}: {}", delta, shortCode, e.getMessage());
+            } finally {
+                if (lock.isHeldByCurrentThread()) {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    private record PendingClicks(Long id, LongAdder clicks) {
+        PendingClicks(Long id) {
+            this(id, new LongAdder());
+        }
+    }
+}
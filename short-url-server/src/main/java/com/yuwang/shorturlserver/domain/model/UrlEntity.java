@@ -1,5 +1,6 @@
 package com.yuwang.shorturlserver.domain.model;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -16,6 +17,11 @@ public class UrlEntity extends BaseEntity{
 
     private String longUrl;
 
+    // MD5 of the normalized long URL, null unless created in dedup mode; never selected so the column is only
+    // required once dedup is enabled (null values are also left out of inserts and updates)
+    @TableField(select = false)
+    private byte[] longUrlHash;
+
     private LocalDateTime expiresAt;
 
     private Long clickCount;
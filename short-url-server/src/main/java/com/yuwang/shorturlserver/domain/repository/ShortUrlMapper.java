@@ -3,7 +3,19 @@ package com.yuwang.shorturlserver.domain.repository;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.yuwang.shorturlserver.domain.model.UrlEntity;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Update;
 
 @Mapper
 public interface ShortUrlMapper extends BaseMapper<UrlEntity> {
-}
\ No newline at end of file
+
+    /**
+     * 原子累加点击数
+     *
+     * @param id    短链接主键
+     * @param delta 增加的点击数
+     * @return 影响行数
+     */
+    @Update("UPDATE urls SET click_count = click_count + #{delta} WHERE id = #{id}")
+    int addClickCount(@Param("id") Long id, @Param("delta") long delta);
+}
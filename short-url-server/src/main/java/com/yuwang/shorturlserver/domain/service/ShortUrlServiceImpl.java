@@ -6,7 +6,11 @@ import com.baomidou.mybatisplus.core.toolkit.Wrappers;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import com.yuwang.shorturlserver.adapter.cmd.ShortUrlCmd;
 import com.yuwang.shorturlserver.adapter.exception.BusinessException;
+import com.yuwang.shorturlserver.config.ShortUrlProperties;
+import com.yuwang.shorturlserver.config.datasource.ReadWriteRoutingDataSource;
 import com.yuwang.shorturlserver.domain.dto.UrlCacheDTO;
+import com.yuwang.shorturlserver.domain.hotlink.HotLinkCache;
+import com.yuwang.shorturlserver.domain.hotlink.PinnedClickCounter;
 import com.yuwang.shorturlserver.domain.model.UrlEntity;
 import com.yuwang.shorturlserver.domain.repository.ShortUrlMapper;
 import lombok.AllArgsConstructor;
@@ -15,14 +19,19 @@ import org.redisson.api.RBloomFilter;
 import org.redisson.api.RBucket;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
 import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Locale;
 
 @Slf4j
 @Service
@@ -31,16 +40,32 @@ public class ShortUrlServiceImpl implements ShortUrlService {
     // MyBatis-Plus mapper
     private final ShortUrlMapper shortUrlMapper;
     private final RedissonClient redissonClient;
+    private final ReadWriteRoutingDataSource routingDataSource;
+    private final HotLinkCache hotLinkCache;
+    private final PinnedClickCounter pinnedClickCounter;
+    private final ShortUrlProperties shortUrlProperties;
 
     public String createShortUrl(ShortUrlCmd request) {
         // 1) Validate the request
-        // 2) Generate or validate custom alias
         String originalUrl = request.getLongUrl();
-        String shortCode = (request.getShortCode() != null && !request.getShortCode().isEmpty())
+        boolean customAlias = request.getShortCode() != null && !request.getShortCode().isEmpty();
+
+        // 1.1) In dedup mode a permanent link without alias reuses the existing code for the same URL
+        byte[] longUrlHash = null;
+        if (shortUrlProperties.isDedupEnabled() && !customAlias && request.getExpiresAt() == null) {
+            longUrlHash = hashLongUrl(originalUrl);
+            String existingCode = findDedupShortCode(longUrlHash);
+            if (existingCode != null) {
+                return existingCode;
+            }
+        }
+
+        // 2) Generate or validate custom alias
+        String shortCode = customAlias
                 ? validateCustomAlias(request.getShortCode())
                 : generateShortCode(originalUrl);
 
-        // 3) Check if code exists in DB or Redis
+        // 3) Check if code exists in DB or Redis (on the primary, a replica may not have it yet)
         String cacheKey = "url:" + shortCode;
         RBucket<UrlCacheDTO> bucket = redissonClient.getBucket(cacheKey);
         if (bucket.isExists() || shortUrlMapper.selectOne(Wrappers.lambdaQuery(UrlEntity.class).eq(UrlEntity::getShortCode, shortCode)) != null) {
@@ -52,10 +77,22 @@ public class ShortUrlServiceImpl implements ShortUrlService {
         UrlEntity entity = new UrlEntity();
         entity.setShortCode(shortCode);
         entity.setLongUrl(originalUrl);
+        entity.setLongUrlHash(longUrlHash);
         entity.setExpiresAt(request.getExpiresAt());
         entity.setCreateTime(LocalDateTime.now());
         entity.setClickCount(0L);
-        shortUrlMapper.insert(entity);
+        try {
+            shortUrlMapper.insert(entity);
+        } catch (DuplicateKeyException e) {
+            // a concurrent create of the same URL won the unique key on long_url_hash
+            String existingCode = longUrlHash != null ? findDedupShortCode(longUrlHash) : null;
+            if (existingCode == null) {
+                throw e;
+            }
+            return existingCode;
+        }
+        // keep reads of this code on the primary until replicas have caught up
+        routingDataSource.markWritten(shortCode);
 
         // 5) Cache in Redis using UrlCacheDTO
         RBucket<UrlCacheDTO> urlCache = redissonClient.getBucket(cacheKey);
@@ -67,23 +104,99 @@ public class ShortUrlServiceImpl implements ShortUrlService {
             long ttl = Duration.between(LocalDateTime.now(), request.getExpiresAt()).toSeconds();
             urlCache.expire(Duration.ofSeconds(ttl));
         }
+        if (longUrlHash != null) {
+            dedupEntry(longUrlHash).set(shortCode, shortUrlProperties.getDedupCacheTtl());
+        }
 
         return shortCode;
     }
 
+    // Looks up the code of the permanent link with the same normalized URL: Redis entry first, then the unique key
+    private String findDedupShortCode(byte[] longUrlHash) {
+        RBucket<String> dedupEntry = dedupEntry(longUrlHash);
+        String shortCode = dedupEntry.get();
+        // trust the cached code only while the link itself is still cached, otherwise confirm against the DB
+        if (shortCode != null && redissonClient.getBucket("url:" + shortCode).isExists()) {
+            return shortCode;
+        }
+
+        UrlEntity entity = shortUrlMapper.selectOne(Wrappers.lambdaQuery(UrlEntity.class).eq(UrlEntity::getLongUrlHash, longUrlHash));
+        if (entity == null) {
+            return null;
+        }
+        dedupEntry.set(entity.getShortCode(), shortUrlProperties.getDedupCacheTtl());
+        return entity.getShortCode();
+    }
+
+    private RBucket<String> dedupEntry(byte[] longUrlHash) {
+        return redissonClient.getBucket("url:dedup:" + HexFormat.of().formatHex(longUrlHash));
+    }
+
+    // MD5 of the normalized URL, fixed 16 bytes to fit the BINARY(16) unique key
+    private byte[] hashLongUrl(String longUrl) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("MD5");
+            return digest.digest(normalizeLongUrl(longUrl).getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Hashing algorithm error", e);
+        }
+    }
+
+    // Lower-cases scheme and host, drops default ports and gives an empty path "/", so trivially different spellings dedup together
+    static String normalizeLongUrl(String longUrl) {
+        String trimmed = longUrl.trim();
+        try {
+            URI uri = new URI(trimmed).normalize();
+            if (uri.getScheme() == null || uri.getHost() == null) {
+                return trimmed;
+            }
+            String scheme = uri.getScheme().toLowerCase(Locale.ROOT);
+            int port = uri.getPort();
+            if (("http".equals(scheme) && port == 80) || ("https".equals(scheme) && port == 443)) {
+                port = -1;
+            }
+            StringBuilder sb = new StringBuilder(scheme).append("://");
+            if (uri.getRawUserInfo() != null) {
+                sb.append(uri.getRawUserInfo()).append('@');
+            }
+            sb.append(uri.getHost().toLowerCase(Locale.ROOT));
+            if (port != -1) {
+                sb.append(':').append(port);
+            }
+            sb.append(uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath());
+            if (uri.getRawQuery() != null) {
+                sb.append('?').append(uri.getRawQuery());
+            }
+            if (uri.getRawFragment() != null) {
+                sb.append('#').append(uri.getRawFragment());
+            }
+            return sb.toString();
+        } catch (URISyntaxException e) {
+            return trimmed;
+        }
+    }
+
     public String getLongUrl(String shortCode) {
+        // 0) Hot codes are pinned in process: no Redis lookup, and clicks are batched instead of locked per request
+        UrlCacheDTO cacheDTO = hotLinkCache.get(shortCode);
+        if (cacheDTO != null) {
+            pinnedClickCounter.record(shortCode, cacheDTO.getId());
+            return cacheDTO.getLongUrl();
+        }
+
         String cacheKey = "url:" + shortCode;
         // 1) Check Redis cache first
         RBucket<UrlCacheDTO> urlCache = redissonClient.getBucket(cacheKey);
-        UrlCacheDTO cacheDTO = urlCache.get();
+        cacheDTO = urlCache.get();
         if (cacheDTO != null) {
             // increment click count in background
             incrementClickCount(shortCode, cacheDTO.getId());
             return cacheDTO.getLongUrl();
         }
 
-        // 2) If not found in cache, query DB
-        UrlEntity entity = shortUrlMapper.selectById(shortCode);
+        // 2) If not found in cache, query DB (replica unless the code was just created)
+        UrlEntity entity = routingDataSource.readFromReplica(shortCode,
+                () -> shortUrlMapper.selectOne(Wrappers.lambdaQuery(UrlEntity.class).eq(UrlEntity::getShortCode, shortCode)));
         if (entity == null) {
             return null; // short code not found
         }
@@ -191,7 +304,7 @@ public class ShortUrlServiceImpl implements ShortUrlService {
     }
 
     public IPage<UrlEntity> page(Page<UrlEntity> page, LambdaQueryWrapper<UrlEntity> queryWrapper) {
-        return shortUrlMapper.selectPage(page, queryWrapper);
+        return routingDataSource.readFromReplica(null, () -> shortUrlMapper.selectPage(page, queryWrapper));
     }
 
 }
\ No newline at end of file
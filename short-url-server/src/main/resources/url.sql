@@ -2,15 +2,20 @@ CREATE TABLE `urls` (
                         `id` BIGINT PRIMARY KEY AUTO_INCREMENT,
                         `short_code` VARCHAR(50) NOT NULL,
                         `long_url` TEXT NOT NULL,
+                        `long_url_hash` BINARY(16) NULL,
                         `created_at` DATETIME NOT NULL,
                         `expires_at` DATETIME NULL,
                         `click_count` BIGINT NOT NULL DEFAULT 0,
                         `create_time` DATETIME NOT NULL,
                         `create_by` VARCHAR(50),
                         `update_time` DATETIME NOT NULL,
-                        `update_by` VARCHAR(50)
+                        `update_by` VARCHAR(50),
+                        UNIQUE KEY `uk_long_url_hash` (`long_url_hash`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
 
+-- migration for existing databases, required before enabling short-url.dedup-enabled:
+-- ALTER TABLE `urls` ADD COLUMN `long_url_hash` BINARY(16) NULL AFTER `long_url`, ADD UNIQUE KEY `uk_long_url_hash` (`long_url_hash`);
+
 CREATE TABLE `url_analytics` (
                                  `id` BIGINT PRIMARY KEY AUTO_INCREMENT,
                                  `short_code` VARCHAR(50) NOT NULL,
@@ -0,0 +1,52 @@
+package com.yuwang.shorturlserver;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import redis.embedded.RedisServer;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+/**
+ * Boots the application with its default application.yaml, with H2 and an embedded Redis standing in for MySQL and Redis,
+ * so configuration that only fails at bean creation (scheduling expressions, property binding) breaks the build.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:shorturl_db;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.datasource.driver-class-name=org.h2.Driver"
+})
+class ShortUrlServerApplicationTests {
+    private static RedisServer redisServer;
+
+    @DynamicPropertySource
+    static void standIns(DynamicPropertyRegistry registry) throws IOException {
+        int redisPort = freePort();
+        redisServer = new RedisServer(redisPort);
+        redisServer.start();
+        registry.add("spring.data.redis.url", () -> "redis://localhost:" + redisPort);
+        registry.add("spring.data.redis.host", () -> "localhost");
+        registry.add("spring.data.redis.port", () -> redisPort);
+    }
+
+    @AfterAll
+    static void stopStandIns() throws IOException {
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+    }
+
+    @Test
+    void contextLoads() {
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
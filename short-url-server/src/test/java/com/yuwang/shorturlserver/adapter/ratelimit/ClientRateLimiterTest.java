@@ -0,0 +1,93 @@
+package com.yuwang.shorturlserver.adapter.ratelimit;
+
+import com.yuwang.shorturlserver.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RAtomicLongAsync;
+import org.redisson.api.RBatch;
+import org.redisson.api.RFuture;
+import org.redisson.api.RedissonClient;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClientRateLimiterTest {
+    private static final String RULE = "shorten";
+    private static final String CLIENT = "ip:10.0.0.1";
+
+    private RateLimitProperties properties;
+    private RateLimitProperties.Rule rule;
+    private RAtomicLongAsync counter;
+    private ClientRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RateLimitProperties();
+        properties.setWindow(Duration.ofSeconds(10));
+        properties.setSyncInterval(Duration.ofSeconds(1));
+        rule = new RateLimitProperties.Rule();
+        rule.setBurst(100);
+        rule.setPermitsPerSecond(100);
+        // 1 permit per second over a 10s window: the cluster allows 10 per window
+        rule.setClusterPermitsPerSecond(1);
+        properties.getRules().put(RULE, rule);
+
+        RedissonClient redissonClient = mock(RedissonClient.class);
+        RBatch batch = mock(RBatch.class);
+        counter = mock(RAtomicLongAsync.class);
+        when(redissonClient.createBatch()).thenReturn(batch);
+        when(batch.getAtomicLong(anyString())).thenReturn(counter);
+        // the current window is returned by addAndGet, the previous one by get
+        stubWindows(0, 0);
+
+        rateLimiter = new ClientRateLimiter(properties, redissonClient, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void previousWindowIsWeightedByItsRemainingOverlap() {
+        assertEquals(15, ClientRateLimiter.slidingWindowEstimate(5, 10, 0), 1e-9);
+        assertEquals(10, ClientRateLimiter.slidingWindowEstimate(5, 10, 0.5), 1e-9);
+        assertEquals(5, ClientRateLimiter.slidingWindowEstimate(5, 10, 1), 1e-9);
+    }
+
+    @Test
+    void clusterOverLimitBlocksUntilTheWindowDrains() {
+        assertEquals(0, rateLimiter.tryAcquire(RULE, rule, CLIENT));
+
+        // the other nodes already pushed the window over its limit
+        stubWindows(11, 0);
+        rateLimiter.sync();
+        assertEquals(properties.getSyncInterval().toNanos(), rateLimiter.tryAcquire(RULE, rule, CLIENT));
+
+        // a blocked bucket keeps syncing with no new permits and is released once the estimate drops
+        stubWindows(10, 0);
+        rateLimiter.sync();
+        assertEquals(0, rateLimiter.tryAcquire(RULE, rule, CLIENT));
+    }
+
+    @Test
+    void clusterUnderLimitKeepsGranting() {
+        assertEquals(0, rateLimiter.tryAcquire(RULE, rule, CLIENT));
+
+        stubWindows(1, 0);
+        rateLimiter.sync();
+        assertEquals(0, rateLimiter.tryAcquire(RULE, rule, CLIENT));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubWindows(long current, long previous) {
+        RFuture<Long> currentFuture = mock(RFuture.class);
+        RFuture<Long> previousFuture = mock(RFuture.class);
+        when(currentFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(current));
+        when(previousFuture.toCompletableFuture()).thenReturn(CompletableFuture.completedFuture(previous));
+        when(counter.addAndGetAsync(anyLong())).thenReturn(currentFuture);
+        when(counter.getAsync()).thenReturn(previousFuture);
+    }
+}
@@ -0,0 +1,82 @@
+package com.yuwang.shorturlserver.adapter.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yuwang.shorturlserver.config.RateLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RateLimitInterceptorTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final RateLimitProperties.Rule rule = new RateLimitProperties.Rule();
+    private ClientRateLimiter rateLimiter;
+    private RateLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        rateLimiter = mock(ClientRateLimiter.class);
+        interceptor = new RateLimitInterceptor("redirect", rule, "X-API-Key", Map.of("secret", "partner"),
+                rateLimiter, new ObjectMapper());
+    }
+
+    @Test
+    void retryAfterRoundsUpToWholeSeconds() throws Exception {
+        assertEquals("1", retryAfter(1));
+        assertEquals("1", retryAfter(SECOND));
+        assertEquals("2", retryAfter(SECOND + 1));
+        assertEquals("3", retryAfter(SECOND * 5 / 2));
+    }
+
+    @Test
+    void unknownApiKeyIsChargedToTheIpOnly() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("X-API-Key", "made-up");
+        when(rateLimiter.tryAcquire(eq("redirect"), eq(rule), anyString())).thenReturn(0L);
+
+        assertTrue(interceptor.preHandle(request, new MockHttpServletResponse(), new Object()));
+        verify(rateLimiter).tryAcquire("redirect", rule, "ip:10.0.0.1");
+        verify(rateLimiter, never()).tryAcquire("redirect", rule, "key:made-up");
+    }
+
+    @Test
+    void registeredApiKeyIsChargedOnTopOfTheIp() throws Exception {
+        MockHttpServletRequest request = request();
+        request.addHeader("X-API-Key", "secret");
+        when(rateLimiter.tryAcquire("redirect", rule, "ip:10.0.0.1")).thenReturn(0L);
+        when(rateLimiter.tryAcquire("redirect", rule, "key:partner")).thenReturn(SECOND);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request, response, new Object()));
+        assertEquals(429, response.getStatus());
+    }
+
+    private String retryAfter(long waitNanos) throws Exception {
+        when(rateLimiter.tryAcquire(eq("redirect"), eq(rule), anyString())).thenReturn(waitNanos);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(request(), response, new Object()));
+        assertEquals(429, response.getStatus());
+        return response.getHeader(HttpHeaders.RETRY_AFTER);
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/abc1234");
+        request.setRemoteAddr("10.0.0.1");
+        return request;
+    }
+}
@@ -0,0 +1,76 @@
+package com.yuwang.shorturlserver.adapter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsGrantedUpFrontThenDenied() {
+        TokenBucket bucket = new TokenBucket(3, 1);
+        long now = System.nanoTime();
+
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now));
+        assertTrue(bucket.tryAcquire(now) > 0);
+        assertEquals(3, bucket.drainUnsyncedPermits());
+        assertEquals(0, bucket.drainUnsyncedPermits());
+    }
+
+    @Test
+    void emptyBucketReportsTheWaitForTheNextToken() {
+        TokenBucket bucket = new TokenBucket(1, 4);
+        long now = System.nanoTime();
+        bucket.tryAcquire(now);
+
+        // 4 permits per second: the next token is at most a quarter second away
+        long waitNanos = bucket.tryAcquire(now);
+        assertTrue(waitNanos > SECOND / 4 - TimeUnit.MILLISECONDS.toNanos(50) && waitNanos <= SECOND / 4,
+                () -> "unexpected wait " + waitNanos);
+        // half way there the wait halves
+        long halfWay = bucket.tryAcquire(now + SECOND / 8);
+        assertTrue(halfWay <= SECOND / 8, () -> "unexpected wait " + halfWay);
+    }
+
+    @Test
+    void tokensRefillAtTheConfiguredRate() {
+        TokenBucket bucket = new TokenBucket(2, 2);
+        long now = System.nanoTime();
+        bucket.tryAcquire(now);
+        bucket.tryAcquire(now);
+
+        // one token every half second
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+        assertTrue(bucket.tryAcquire(now + SECOND / 2) > 0);
+        assertEquals(0, bucket.tryAcquire(now + SECOND));
+    }
+
+    @Test
+    void refillIsCappedAtTheBurst() {
+        TokenBucket bucket = new TokenBucket(2, 10);
+        long later = System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertTrue(bucket.tryAcquire(later) > 0);
+    }
+
+    @Test
+    void clusterBlockExpiresAtItsDeadline() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        long now = System.nanoTime();
+        bucket.blockCluster(now + SECOND);
+
+        assertTrue(bucket.isClusterBlocked(now));
+        assertFalse(bucket.isClusterBlocked(now + SECOND));
+        bucket.unblockCluster();
+        assertFalse(bucket.isClusterBlocked(now));
+    }
+}
@@ -0,0 +1,110 @@
+package com.yuwang.shorturlserver.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private HikariDataSource primary;
+    private HikariDataSource replicaPool;
+    private ReplicaNode replica;
+    private ReadWriteRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(HikariDataSource.class);
+        replicaPool = mock(HikariDataSource.class);
+        replica = new ReplicaNode("replica-0", replicaPool);
+
+        // one successful probe with no replication status row marks the replica healthy with zero lag
+        Connection probe = mock(Connection.class);
+        Statement statement = mock(Statement.class);
+        when(replicaPool.getConnection()).thenReturn(probe);
+        when(probe.isValid(anyInt())).thenReturn(true);
+        when(probe.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(mock(ResultSet.class));
+        replica.check();
+
+        routingDataSource = new ReadWriteRoutingDataSource(primary, List.of(replica),
+                new ReadWriteDataSourceProperties(), meterRegistry);
+        routingDataSource.afterPropertiesSet();
+    }
+
+    @Test
+    void replicaReadIsCountedOnce() throws SQLException {
+        Connection replicaConnection = mock(Connection.class);
+        when(replicaPool.getConnection()).thenReturn(replicaConnection);
+
+        assertSame(replicaConnection, routingDataSource.readFromReplica("abc", this::connect));
+        assertEquals(1, count("replica"));
+        assertEquals(0, count("fallback"));
+    }
+
+    @Test
+    void failedReplicaConnectionFallsBackAndIsCountedOnlyAsFallback() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        when(replicaPool.getConnection()).thenThrow(new SQLTransientConnectionException("timeout"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.readFromReplica("abc", this::connect));
+        assertFalse(replica.isHealthy());
+        assertEquals(0, count("replica"));
+        assertEquals(1, count("fallback"));
+    }
+
+    @Test
+    void credentialedConnectionFallsBackToo() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        when(replicaPool.getConnection("u", "p")).thenThrow(new SQLTransientConnectionException("timeout"));
+        when(primary.getConnection("u", "p")).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.readFromReplica("abc", () -> {
+            try {
+                return routingDataSource.getConnection("u", "p");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }));
+        assertEquals(1, count("fallback"));
+    }
+
+    @Test
+    void writesAreCountedOnThePrimary() throws SQLException {
+        Connection primaryConnection = mock(Connection.class);
+        when(primary.getConnection()).thenReturn(primaryConnection);
+
+        assertSame(primaryConnection, routingDataSource.getConnection());
+        assertEquals(1, count("primary"));
+        assertEquals(0, count("replica"));
+    }
+
+    private Connection connect() {
+        try {
+            return routingDataSource.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double count(String route) {
+        return meterRegistry.get("shorturl.datasource.route").tag("route", route).counter().count();
+    }
+}
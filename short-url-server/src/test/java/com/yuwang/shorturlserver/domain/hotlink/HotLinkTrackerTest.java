@@ -0,0 +1,166 @@
+package com.yuwang.shorturlserver.domain.hotlink;
+
+import com.yuwang.shorturlserver.config.HotLinkProperties;
+import com.yuwang.shorturlserver.domain.dto.HotLinkDTO;
+import com.yuwang.shorturlserver.domain.dto.UrlCacheDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class HotLinkTrackerTest {
+    private final HotLinkProperties properties = new HotLinkProperties();
+    private final HotLinkCache hotLinkCache = new HotLinkCache();
+    // stands in for the hotlinks:nodes map shared by all nodes
+    private final Map<String, ArrayList<HotLinkDTO>> publishedSnapshots = new HashMap<>();
+    private RedissonClient redissonClient;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        properties.setTopK(2);
+        properties.setNodeId("test");
+        // nothing is pinned unless a test lowers the bar
+        properties.setMinPinRate(Double.MAX_VALUE);
+
+        redissonClient = mock(RedissonClient.class);
+        RMapCache<String, ArrayList<HotLinkDTO>> nodes = mock(RMapCache.class);
+        when(nodes.fastPut(anyString(), any(), anyLong(), any(TimeUnit.class))).thenAnswer(invocation -> {
+            publishedSnapshots.put(invocation.getArgument(0), invocation.getArgument(1));
+            return true;
+        });
+        when(nodes.readAllValues()).thenAnswer(invocation -> new ArrayList<>(publishedSnapshots.values()));
+        doReturn(nodes).when(redissonClient).getMapCache("hotlinks:nodes");
+        RBucket<Object> missing = mock(RBucket.class);
+        doReturn(missing).when(redissonClient).getBucket(anyString());
+    }
+
+    @Test
+    void decayFactorHalvesCountsEveryHalfLife() {
+        assertEquals(0.5, HotLinkTracker.decayFactor(60, 60), 1e-9);
+        assertEquals(0.25, HotLinkTracker.decayFactor(120, 60), 1e-9);
+        assertEquals(1.0, HotLinkTracker.decayFactor(0, 60), 1e-9);
+    }
+
+    @Test
+    void steadyTrafficConvergesToItsRate() {
+        double ratePerSecond = 40;
+        double tickSeconds = 5;
+        double decay = HotLinkTracker.decayFactor(tickSeconds, 60);
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+
+        double estimatedRate = 0;
+        for (int tick = 0; tick < 200; tick++) {
+            for (int i = 0; i < ratePerSecond * tickSeconds; i++) {
+                sketch.increment("hot");
+            }
+            // same order as the tracker: read the rate, then decay
+            estimatedRate = HotLinkTracker.ratePerSecond(sketch.estimate("hot"), decay, tickSeconds);
+            sketch.decay(decay);
+        }
+
+        // counts are truncated to longs on every decay, so allow a small undershoot
+        assertEquals(ratePerSecond, estimatedRate, ratePerSecond * 0.02);
+    }
+
+    @Test
+    void hotterCodeEvictsTheColdestCandidate() {
+        HotLinkTracker tracker = new HotLinkTracker(properties, redissonClient, hotLinkCache);
+
+        record(tracker, "a", 5);
+        record(tracker, "b", 3);
+        record(tracker, "c", 4);
+        tracker.tick();
+
+        assertEquals(List.of("a", "c"), codes(tracker.getHotLinks(false)));
+    }
+
+    @Test
+    void colderCodeIsNotAdmittedOnceTopKIsFull() {
+        HotLinkTracker tracker = new HotLinkTracker(properties, redissonClient, hotLinkCache);
+
+        record(tracker, "a", 5);
+        record(tracker, "b", 3);
+        record(tracker, "c", 2);
+        tracker.tick();
+
+        assertEquals(List.of("a", "b"), codes(tracker.getHotLinks(false)));
+    }
+
+    @Test
+    void clusterViewSumsNodeSnapshotsAndKeepsTopK() {
+        publishedSnapshots.put("other", snapshot(new HotLinkDTO("b", 1000), new HotLinkDTO("a", 1), new HotLinkDTO("d", 0.5)));
+        HotLinkTracker tracker = new HotLinkTracker(properties, redissonClient, hotLinkCache);
+
+        record(tracker, "a", 5);
+        record(tracker, "c", 4);
+        tracker.tick();
+
+        double localRateOfA = tracker.getHotLinks(false).get(0).getRatePerSecond();
+        assertEquals(List.of("a", "c"), publishedCodes("test"));
+        List<HotLinkDTO> cluster = tracker.getHotLinks(true);
+        assertEquals(List.of("b", "a"), codes(cluster));
+        assertEquals(1000, cluster.get(0).getRatePerSecond(), 1e-9);
+        assertEquals(1 + localRateOfA, cluster.get(1).getRatePerSecond(), 1e-9);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void clusterHotCodesArePinnedFromRedisAndUnpinnedWhenTheyCoolDown() {
+        properties.setMinPinRate(0.75);
+        publishedSnapshots.put("other", snapshot(new HotLinkDTO("b", 1000), new HotLinkDTO("a", 1)));
+        UrlCacheDTO cachedB = new UrlCacheDTO();
+        cachedB.setLongUrl("https://example.com/b");
+        RBucket<Object> bucketB = mock(RBucket.class);
+        when(bucketB.get()).thenReturn(cachedB);
+        when(bucketB.remainTimeToLive()).thenReturn(-1L);
+        doReturn(bucketB).when(redissonClient).getBucket("url:b");
+        HotLinkTracker tracker = new HotLinkTracker(properties, redissonClient, hotLinkCache);
+
+        tracker.tick();
+
+        assertSame(cachedB, hotLinkCache.get("b"));
+        // "a" is hot enough but no longer cached in redis, so there is nothing to pin
+        assertFalse(hotLinkCache.isPinned("a"));
+
+        publishedSnapshots.put("other", snapshot(new HotLinkDTO("a", 1)));
+        tracker.tick();
+
+        assertFalse(hotLinkCache.isPinned("b"));
+    }
+
+    private List<String> publishedCodes(String nodeId) {
+        return codes(publishedSnapshots.get(nodeId));
+    }
+
+    private static List<String> codes(List<HotLinkDTO> hotLinks) {
+        return hotLinks.stream().map(HotLinkDTO::getShortCode).toList();
+    }
+
+    private static ArrayList<HotLinkDTO> snapshot(HotLinkDTO... hotLinks) {
+        return new ArrayList<>(List.of(hotLinks));
+    }
+
+    private static void record(HotLinkTracker tracker, String shortCode, int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.record(shortCode);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.yuwang.shorturlserver.domain.service;
+
+import com.baomidou.mybatisplus.core.MybatisConfiguration;
+import com.baomidou.mybatisplus.core.metadata.TableInfoHelper;
+import com.yuwang.shorturlserver.adapter.cmd.ShortUrlCmd;
+import com.yuwang.shorturlserver.config.ShortUrlProperties;
+import com.yuwang.shorturlserver.config.datasource.ReadWriteRoutingDataSource;
+import com.yuwang.shorturlserver.domain.hotlink.HotLinkCache;
+import com.yuwang.shorturlserver.domain.hotlink.PinnedClickCounter;
+import com.yuwang.shorturlserver.domain.model.UrlEntity;
+import com.yuwang.shorturlserver.domain.repository.ShortUrlMapper;
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.springframework.dao.DuplicateKeyException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShortUrlServiceImplTest {
+
+    private ShortUrlMapper shortUrlMapper;
+    private RedissonClient redissonClient;
+    private ReadWriteRoutingDataSource routingDataSource;
+    private RBucket<Object> urlBucket;
+    private RBucket<Object> dedupBucket;
+    private ShortUrlServiceImpl shortUrlService;
+
+    @BeforeAll
+    static void initTableInfo() {
+        // lambda wrappers resolve columns from the MyBatis-Plus table metadata
+        TableInfoHelper.initTableInfo(new MapperBuilderAssistant(new MybatisConfiguration(), ""), UrlEntity.class);
+    }
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        shortUrlMapper = mock(ShortUrlMapper.class);
+        redissonClient = mock(RedissonClient.class);
+        routingDataSource = mock(ReadWriteRoutingDataSource.class);
+        urlBucket = mock(RBucket.class);
+        dedupBucket = mock(RBucket.class);
+        doReturn(urlBucket).when(redissonClient).getBucket(anyString());
+        doReturn(dedupBucket).when(redissonClient).getBucket(startsWith("url:dedup:"));
+        doReturn(mock(RBloomFilter.class)).when(redissonClient).getBloomFilter(anyString());
+
+        ShortUrlProperties properties = new ShortUrlProperties();
+        properties.setDedupEnabled(true);
+        shortUrlService = new ShortUrlServiceImpl(shortUrlMapper, redissonClient, routingDataSource,
+                mock(HotLinkCache.class), mock(PinnedClickCounter.class), properties);
+    }
+
+    @Test
+    void normalizeLowerCasesSchemeAndHost() {
+        assertEquals("https://example.com/Path?Q=1", ShortUrlServiceImpl.normalizeLongUrl("HTTPS://Example.COM/Path?Q=1"));
+    }
+
+    @Test
+    void normalizeDropsDefaultPorts() {
+        assertEquals("http://example.com/a", ShortUrlServiceImpl.normalizeLongUrl("http://example.com:80/a"));
+        assertEquals("https://example.com/a", ShortUrlServiceImpl.normalizeLongUrl("https://example.com:443/a"));
+        assertEquals("https://example.com:8443/a", ShortUrlServiceImpl.normalizeLongUrl("https://example.com:8443/a"));
+    }
+
+    @Test
+    void normalizeTurnsEmptyPathIntoSlash() {
+        assertEquals("http://example.com/", ShortUrlServiceImpl.normalizeLongUrl("http://example.com"));
+        assertEquals("http://example.com/?a=1#top", ShortUrlServiceImpl.normalizeLongUrl("http://example.com?a=1#top"));
+    }
+
+    @Test
+    void normalizeResolvesDotSegmentsAndTrims() {
+        assertEquals("http://example.com/b", ShortUrlServiceImpl.normalizeLongUrl("  http://example.com/a/../b  "));
+    }
+
+    @Test
+    void normalizeKeepsUnparseableInputTrimmed() {
+        assertEquals("not a url", ShortUrlServiceImpl.normalizeLongUrl("  not a url "));
+        assertEquals("example.com/path", ShortUrlServiceImpl.normalizeLongUrl("example.com/path"));
+    }
+
+    @Test
+    void cachedDedupHitReturnsExistingCodeWithoutInsert() {
+        when(dedupBucket.get()).thenReturn("exist01");
+        when(urlBucket.isExists()).thenReturn(true);
+
+        assertEquals("exist01", shortUrlService.createShortUrl(cmd("https://example.com/page")));
+        verify(shortUrlMapper, never()).insert(any(UrlEntity.class));
+    }
+
+    @Test
+    void duplicateKeyOnInsertReturnsTheWinningCode() {
+        UrlEntity winner = new UrlEntity();
+        winner.setId(7L);
+        winner.setShortCode("exist01");
+        // dedup lookup misses, short code uniqueness check misses, re-read after the duplicate key finds the winner
+        when(shortUrlMapper.selectOne(any())).thenReturn(null, null, winner);
+        when(shortUrlMapper.insert(any(UrlEntity.class))).thenThrow(new DuplicateKeyException("uk_long_url_hash"));
+
+        assertEquals("exist01", shortUrlService.createShortUrl(cmd("https://example.com/page")));
+        verify(routingDataSource, never()).markWritten(anyString());
+    }
+
+    private static ShortUrlCmd cmd(String longUrl) {
+        ShortUrlCmd cmd = new ShortUrlCmd();
+        cmd.setLongUrl(longUrl);
+        return cmd;
+    }
+}